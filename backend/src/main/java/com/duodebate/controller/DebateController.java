@@ -3,7 +3,14 @@ package com.duodebate.controller;
 import com.duodebate.dto.DebateEvent;
 import com.duodebate.dto.DebateRequest;
 import com.duodebate.dto.DebateResponse;
+import com.duodebate.dto.DraftDiff;
+import com.duodebate.dto.DraftVersion;
+import com.duodebate.dto.SseConnectionMetrics;
 import com.duodebate.service.DebateOrchestrator;
+import com.duodebate.service.DraftHistoryStore;
+import com.duodebate.service.SseConnectionManager;
+import com.duodebate.service.SseEventWriter;
+import com.duodebate.service.TranscriptSink;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +19,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
@@ -23,11 +32,15 @@ import java.util.concurrent.Executors;
 public class DebateController {
 
     private final DebateOrchestrator debateOrchestrator;
+    private final DraftHistoryStore draftHistoryStore;
+    private final SseConnectionManager sseConnectionManager;
+    private final TranscriptSink transcriptSink;
     private final ExecutorService executorService = Executors.newCachedThreadPool();
 
     @PostMapping("/debate")
     public ResponseEntity<DebateResponse> conductDebate(@Valid @RequestBody DebateRequest request) {
-        log.info("Received debate request: {}", request);
+        log.info("Received debate request: maxIterations={}, prompt_length={}",
+                request.getMaxIterations(), request.getPrompt().length());
 
         try {
             DebateResponse response = debateOrchestrator.conductDebate(request);
@@ -40,32 +53,68 @@ public class DebateController {
 
     @PostMapping(value = "/debate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     public SseEmitter conductDebateStream(@Valid @RequestBody DebateRequest request) {
-        log.info("Received streaming debate request: {}", request);
+        log.info("Received streaming debate request: maxIterations={}, prompt_length={}",
+                request.getMaxIterations(), request.getPrompt().length());
 
         SseEmitter emitter = new SseEmitter(600000L); // 10 minute timeout
+        // Socket writes happen on the writer's own thread, never on the debate thread
+        SseEventWriter writer = sseConnectionManager.open(emitter);
 
         executorService.execute(() -> {
             try {
-                debateOrchestrator.conductDebateStreaming(request, emitter);
-                emitter.complete();
+                debateOrchestrator.conductDebateStreaming(request, writer);
+                writer.complete();
             } catch (Exception e) {
                 log.error("Error in streaming debate", e);
-                try {
-                    DebateEvent errorEvent = DebateEvent.builder()
-                            .type(DebateEvent.EventType.ERROR)
-                            .error(e.getMessage())
-                            .build();
-                    emitter.send(errorEvent);
-                } catch (Exception ex) {
-                    log.error("Failed to send error event", ex);
-                }
-                emitter.completeWithError(e);
+                writer.send(DebateEvent.builder()
+                        .type(DebateEvent.EventType.ERROR)
+                        .error(e.getMessage())
+                        .build());
+                writer.completeWithError(e);
             }
         });
 
         return emitter;
     }
 
+    @GetMapping("/debates/{id}/drafts")
+    public ResponseEntity<List<Integer>> getDraftIterations(@PathVariable String id) {
+        List<Integer> iterations = draftHistoryStore.getIterations(id);
+        return iterations.isEmpty() ? ResponseEntity.notFound().build() : ResponseEntity.ok(iterations);
+    }
+
+    @GetMapping("/debates/{id}/drafts/{iteration}")
+    public ResponseEntity<DraftVersion> getDraft(@PathVariable String id, @PathVariable int iteration) {
+        return draftHistoryStore.getDraft(id, iteration)
+                .map(draft -> DraftVersion.builder()
+                        .debateId(id)
+                        .iteration(iteration)
+                        .draft(draft)
+                        .length(draft.length())
+                        .build())
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/debates/{id}/drafts/diff")
+    public ResponseEntity<DraftDiff> diffDrafts(@PathVariable String id,
+                                                @RequestParam int from,
+                                                @RequestParam int to) {
+        return draftHistoryStore.diff(id, from, to)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/streams/metrics")
+    public ResponseEntity<List<SseConnectionMetrics>> getStreamMetrics() {
+        return ResponseEntity.ok(sseConnectionManager.getMetrics());
+    }
+
+    @GetMapping("/transcripts/metrics")
+    public ResponseEntity<Map<String, Long>> getTranscriptMetrics() {
+        return ResponseEntity.ok(transcriptSink.getMetrics());
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> health() {
         return ResponseEntity.ok("DuoDebate API is running");
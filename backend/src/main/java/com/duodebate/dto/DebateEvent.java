@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 public class DebateEvent {
 
     private EventType type;
+    private String debateId;
     private DebateMessage message;
     private String error;
     private DebateResponse finalResponse;
@@ -14,6 +14,6 @@ public class DebateMessage {
     private String role; // "PROPOSER" or "CHALLENGER"
     private String content;
     private Integer iteration;
-    private String model; // "openai" or "gemini"
+    private String model; // provider: "openai", "gemini" or "ollama"
     private String status; // "ONGOING", "READY", "MAX_ITERATIONS"
 }
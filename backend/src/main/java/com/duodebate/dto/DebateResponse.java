@@ -13,6 +13,7 @@ import java.util.List;
 @AllArgsConstructor
 public class DebateResponse {
 
+    private String debateId; // key for /api/debates/{id}/drafts
     private String prompt;
     private List<DebateMessage> transcript;
     private String finalStatus; // "READY" or "MAX_ITERATIONS"
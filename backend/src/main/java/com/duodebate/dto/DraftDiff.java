@@ -0,0 +1,22 @@
+package com.duodebate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftDiff {
+
+    private String debateId;
+    private Integer fromIteration;
+    private Integer toIteration;
+    private Integer linesAdded;
+    private Integer linesRemoved;
+    private List<String> lines; // unified-style: " " unchanged, "+" added, "-" removed
+}
@@ -0,0 +1,18 @@
+package com.duodebate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DraftVersion {
+
+    private String debateId;
+    private Integer iteration;
+    private String draft;
+    private Integer length;
+}
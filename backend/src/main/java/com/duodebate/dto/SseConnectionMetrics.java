@@ -0,0 +1,24 @@
+package com.duodebate.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SseConnectionMetrics {
+
+    private String connectionId;
+    private String debateId;
+    private Boolean open;
+    private Boolean stalled;   // closed because structural events backed up past the queue capacity
+    private Integer queueDepth;
+    private Integer maxQueueDepth;
+    private Long sent;
+    private Long coalesced; // progress events superseded while the client was behind
+    private Long dropped;   // progress events discarded because the queue was full
+    private Long heartbeats;
+}
@@ -0,0 +1,178 @@
+package com.duodebate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.google.genai.GoogleGenAiChatModel;
+import org.springframework.ai.ollama.OllamaChatModel;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.api.OllamaChatOptions;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Builds the ChatModel backing a debate role from {@code debate.<role>.*} properties.
+ *
+ * Supported providers:
+ * - openai: OpenAI, or any OpenAI-compatible server when base-url is set (vLLM, llama.cpp, LM Studio)
+ * - ollama: native Ollama API, with keep-alive so the model stays loaded between turns
+ * - gemini: the auto-configured Google GenAI model (spring.ai.google.genai.*, challenger only,
+ *   since that bean is bound to the CHALLENGER_* settings)
+ *
+ * Every model is wrapped in a {@link MeteredChatModel} that logs tokens/sec per turn. Roles
+ * pointing at the same server share one slot limit of {@code max-concurrency}, so two roles
+ * on one Ollama/vLLM instance never exceed its parallel slots between them.
+ */
+@Slf4j
+@Component
+public class ChatModelFactory {
+
+    private static final String DEFAULT_OLLAMA_URL = "http://localhost:11434";
+    private static final String GEMINI_ROLE = "challenger";
+    private static final List<String> ROLES = List.of("proposer", "challenger");
+
+    // Keyed by server URL; only touched while the orchestrator is being wired
+    private final Map<String, ServerSlots> serverSlots = new HashMap<>();
+
+    private final Environment environment;
+    private final ObjectProvider<GoogleGenAiChatModel> geminiChatModel;
+
+    public ChatModelFactory(Environment environment, ObjectProvider<GoogleGenAiChatModel> geminiChatModel) {
+        this.environment = environment;
+        this.geminiChatModel = geminiChatModel;
+    }
+
+    /**
+     * @param role property prefix under {@code debate.}, e.g. "proposer" or "challenger"
+     */
+    public ChatModel create(String role) {
+        String provider = property(role, "provider", "openai").toLowerCase();
+        String model = property(role, "model", "");
+        String apiKey = property(role, "api-key", "");
+        String baseUrl = property(role, "base-url", "");
+        double temperature = Double.parseDouble(property(role, "temperature", "0.7"));
+
+        ChatModel chatModel = switch (provider) {
+            case "ollama" -> buildOllamaModel(model, baseUrl, temperature,
+                    normalizeKeepAlive(property(role, "keep-alive", "30m")));
+            case "openai" -> buildOpenAiModel(role, model, apiKey, baseUrl, temperature);
+            case "gemini" -> geminiModel(role);
+            default -> throw new IllegalArgumentException("Unsupported provider for " + role + ": " + provider);
+        };
+        if ("gemini".equals(provider)) {
+            model = environment.getProperty("spring.ai.google.genai.chat.options.model", model);
+        }
+
+        String server = serverKey(provider, baseUrl);
+        ServerSlots slots = serverSlots.computeIfAbsent(server, this::resolveSlots);
+
+        log.info("Built {} model for {}: model={}, server={}, maxConcurrency={}",
+                provider, role, model, server, slots.limit() > 0 ? slots.limit() : "unlimited");
+
+        return new MeteredChatModel(chatModel, role.toUpperCase(), slots.semaphore());
+    }
+
+    private ChatModel geminiModel(String role) {
+        if (!GEMINI_ROLE.equals(role)) {
+            throw new IllegalStateException("debate." + role + ".provider=gemini is not supported: the Gemini "
+                    + "model is auto-configured from the CHALLENGER_* settings, so only the challenger can use it");
+        }
+        return geminiChatModel.getIfAvailable(() -> {
+            throw new IllegalStateException("debate." + role + ".provider=gemini but no Google GenAI "
+                    + "chat model is configured (check spring.ai.model.chat and spring.ai.google.genai.api-key)");
+        });
+    }
+
+    // The tightest positive max-concurrency of any role on this server applies to all of them
+    private ServerSlots resolveSlots(String server) {
+        int limit = 0;
+        for (String role : ROLES) {
+            String provider = property(role, "provider", "openai").toLowerCase();
+            if (!server.equals(serverKey(provider, property(role, "base-url", "")))) {
+                continue;
+            }
+            int roleLimit = Integer.parseInt(property(role, "max-concurrency", "0"));
+            if (roleLimit <= 0) {
+                continue;
+            }
+            if (limit > 0 && roleLimit != limit) {
+                log.warn("Roles on {} set different max-concurrency values ({} and {}); using the smaller",
+                        server, limit, roleLimit);
+            }
+            limit = limit > 0 ? Math.min(limit, roleLimit) : roleLimit;
+        }
+        return new ServerSlots(limit, limit > 0 ? new Semaphore(limit, true) : null);
+    }
+
+    private static String serverKey(String provider, String baseUrl) {
+        String url = switch (provider) {
+            case "ollama" -> baseUrl.isEmpty() ? DEFAULT_OLLAMA_URL : baseUrl;
+            case "openai" -> baseUrl.isEmpty() ? "https://api.openai.com" : baseUrl;
+            default -> provider;
+        };
+        return url.endsWith("/") ? url.substring(0, url.length() - 1) : url;
+    }
+
+    /**
+     * Ollama parses string keep_alive values as Go durations, which need a unit;
+     * treat a bare number like "-1" or "3600" as seconds.
+     */
+    static String normalizeKeepAlive(String keepAlive) {
+        return keepAlive.matches("-?\\d+") ? keepAlive + "s" : keepAlive;
+    }
+
+    private ChatModel buildOllamaModel(String model, String baseUrl, double temperature, String keepAlive) {
+        OllamaApi ollamaApi = OllamaApi.builder()
+                .baseUrl(baseUrl.isEmpty() ? DEFAULT_OLLAMA_URL : baseUrl)
+                .build();
+
+        OllamaChatOptions options = OllamaChatOptions.builder()
+                .model(model)
+                .temperature(temperature)
+                .keepAlive(keepAlive)
+                .build();
+
+        return OllamaChatModel.builder()
+                .ollamaApi(ollamaApi)
+                .defaultOptions(options)
+                .build();
+    }
+
+    private ChatModel buildOpenAiModel(String role, String model, String apiKey, String baseUrl, double temperature) {
+        if (apiKey.isEmpty() && baseUrl.isEmpty()) {
+            throw new IllegalStateException("debate." + role + ".api-key is required for provider=openai "
+                    + "without a base-url (set " + role.toUpperCase() + "_API_KEY)");
+        }
+        OpenAiApi.Builder apiBuilder = OpenAiApi.builder()
+                // Local OpenAI-compatible servers ignore the key but the client requires one
+                .apiKey(apiKey.isEmpty() ? "not-needed" : apiKey);
+        if (!baseUrl.isEmpty()) {
+            apiBuilder.baseUrl(baseUrl);
+        }
+
+        OpenAiChatOptions options = OpenAiChatOptions.builder()
+                .model(model)
+                .temperature(temperature)
+                .build();
+
+        return OpenAiChatModel.builder()
+                .openAiApi(apiBuilder.build())
+                .defaultOptions(options)
+                .build();
+    }
+
+    private String property(String role, String name, String defaultValue) {
+        return environment.getProperty("debate." + role + "." + name, defaultValue).trim();
+    }
+
+    private record ServerSlots(int limit, Semaphore semaphore) {
+    }
+}
@@ -8,17 +8,15 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
-import org.springframework.ai.openai.OpenAiChatModel;
-import org.springframework.ai.google.genai.GoogleGenAiChatModel;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
-import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
 
 @Slf4j
 @Service
@@ -33,17 +31,20 @@ public class DebateOrchestrator {
     private final String challengerModel;
     private final String proposerProvider;
     private final String challengerProvider;
+    private final TranscriptSink transcriptSink;
+    private final DraftHistoryStore draftHistoryStore;
 
     public DebateOrchestrator(
-            OpenAiChatModel openAiChatModel,
-            GoogleGenAiChatModel geminiChatModel,
+            ChatModelFactory chatModelFactory,
             @Value("classpath:prompts/proposer-system.txt") Resource proposerPrompt,
             @Value("classpath:prompts/challenger-system.txt") Resource challengerPrompt,
             @Value("${debate.proposer.model}") String proposerModel,
             @Value("${debate.challenger.model}") String challengerModel,
             @Value("${debate.proposer.provider}") String proposerProvider,
             @Value("${debate.challenger.provider}") String challengerProvider,
-            ObjectMapper objectMapper) throws IOException {
+            ObjectMapper objectMapper,
+            TranscriptSink transcriptSink,
+            DraftHistoryStore draftHistoryStore) throws IOException {
 
         this.proposerSystemPrompt = proposerPrompt.getContentAsString(StandardCharsets.UTF_8);
         this.challengerSystemPrompt = challengerPrompt.getContentAsString(StandardCharsets.UTF_8);
@@ -52,14 +53,15 @@ public class DebateOrchestrator {
         this.challengerModel = challengerModel;
         this.proposerProvider = proposerProvider;
         this.challengerProvider = challengerProvider;
+        this.transcriptSink = transcriptSink;
+        this.draftHistoryStore = draftHistoryStore;
 
-        // OpenAI for PROPOSER
-        this.proposerClient = ChatClient.builder(openAiChatModel)
+        // Each role is backed by whichever provider debate.<role>.* points at
+        this.proposerClient = ChatClient.builder(chatModelFactory.create("proposer"))
                 .defaultSystem(this.proposerSystemPrompt)
                 .build();
 
-        // Google Gemini for CHALLENGER
-        this.challengerClient = ChatClient.builder(geminiChatModel)
+        this.challengerClient = ChatClient.builder(chatModelFactory.create("challenger"))
                 .defaultSystem(this.challengerSystemPrompt)
                 .build();
 
@@ -87,7 +89,8 @@ public class DebateOrchestrator {
     }
 
     public DebateResponse conductDebate(DebateRequest request) {
-        log.info("Starting debate for prompt: {}", request.getPrompt());
+        String debateId = UUID.randomUUID().toString();
+        beginTranscript(debateId, request.getPrompt(), false);
 
         List<DebateMessage> transcript = new ArrayList<>();
         List<String> sources = new ArrayList<>();
@@ -97,7 +100,7 @@ public class DebateOrchestrator {
         int maxIterations = request.getMaxIterations();
 
         for (int i = 0; i < maxIterations; i++) {
-            log.info("=== Iteration {} ===", i + 1);
+            log.info("[{}] === Iteration {} ===", debateId, i + 1);
 
             // PROPOSER's turn
             String proposerPrompt = buildProposerPrompt(request.getPrompt(), challengerFeedback, i);
@@ -108,11 +111,12 @@ public class DebateOrchestrator {
 
             String proposerResponse = proposerChatResponse.getResult().getOutput().getText();
 
-            log.debug("PROPOSER raw response: {}", proposerResponse);
+            recordBody(debateId, "PROPOSER_RAW", i + 1, proposerResponse);
 
             try {
                 JsonNode proposerJson = parseJsonResponse(proposerResponse);
                 currentDraft = proposerJson.get("draft").asText();
+                draftHistoryStore.record(debateId, i + 1, currentDraft);
                 String proposerMessage = proposerJson.has("response")
                     ? proposerJson.get("response").asText()
                     : "Initial draft created";
@@ -124,7 +128,7 @@ public class DebateOrchestrator {
                         String source = sourceNode.asText();
                         if (!source.isEmpty() && !sources.contains(source)) {
                             sources.add(source);
-                            log.info("Added source: {}", source);
+                            log.debug("[{}] Added source: {}", debateId, source);
                         }
                     });
                 }
@@ -133,28 +137,31 @@ public class DebateOrchestrator {
                         .role("PROPOSER")
                         .content(proposerMessage)
                         .iteration(i + 1)
-                        .model("openai")
+                        .model(proposerProvider)
                         .status(status)
                         .build();
 
                 transcript.add(proposerMsg);
-                log.info("PROPOSER (iteration {}): status={}, draft_length={}, sources_count={}",
-                    i + 1, status, currentDraft.length(), sources.size());
-                log.info("PROPOSER Response: {}", proposerMessage);
-                log.info("PROPOSER Current Draft:\n{}", currentDraft);
+                transcriptSink.record(debateId, "PROPOSER_RESPONSE", i + 1, proposerMessage);
+                transcriptSink.record(debateId, "DRAFT", i + 1, currentDraft);
+                if (log.isInfoEnabled()) {
+                    log.info("[{}] PROPOSER (iteration {}): status={}, draft_length={}, draft_hash={}, sources_count={}",
+                        debateId, i + 1, status, currentDraft.length(),
+                        TranscriptSink.fingerprint(currentDraft), sources.size());
+                }
 
                 if ("READY".equalsIgnoreCase(status)) {
-                    log.info("PROPOSER marked draft as READY");
+                    log.info("[{}] PROPOSER marked draft as READY", debateId);
                     break;
                 }
 
             } catch (Exception e) {
-                log.error("Error parsing PROPOSER response", e);
+                log.error("[{}] Error parsing PROPOSER response", debateId, e);
                 transcript.add(DebateMessage.builder()
                         .role("PROPOSER")
                         .content("Error processing response: " + e.getMessage())
                         .iteration(i + 1)
-                        .model("openai")
+                        .model(proposerProvider)
                         .status("ERROR")
                         .build());
                 break;
@@ -167,7 +174,7 @@ public class DebateOrchestrator {
                     .call()
                     .content();
 
-            log.debug("CHALLENGER raw response: {}", challengerResponse);
+            recordBody(debateId, "CHALLENGER_RAW", i + 1, challengerResponse);
 
             try {
                 JsonNode challengerJson = parseJsonResponse(challengerResponse);
@@ -193,21 +200,25 @@ public class DebateOrchestrator {
                         .role("CHALLENGER")
                         .content(challengerFeedback)
                         .iteration(i + 1)
-                        .model("gemini")
+                        .model(challengerProvider)
                         .status("ONGOING")
                         .build();
 
                 transcript.add(challengerMsgObj);
-                log.info("CHALLENGER (iteration {}): provided critique and suggestions", i + 1);
-                log.info("CHALLENGER Critique:\n{}", challengerFeedback);
+                transcriptSink.record(debateId, "CRITIQUE", i + 1, challengerFeedback);
+                if (log.isInfoEnabled()) {
+                    log.info("[{}] CHALLENGER (iteration {}): critique_length={}, critique_hash={}",
+                        debateId, i + 1, challengerFeedback.length(),
+                        TranscriptSink.fingerprint(challengerFeedback));
+                }
 
             } catch (Exception e) {
-                log.error("Error parsing CHALLENGER response", e);
+                log.error("[{}] Error parsing CHALLENGER response", debateId, e);
                 transcript.add(DebateMessage.builder()
                         .role("CHALLENGER")
                         .content("Error processing response: " + e.getMessage())
                         .iteration(i + 1)
-                        .model("gemini")
+                        .model(challengerProvider)
                         .status("ERROR")
                         .build());
                 break;
@@ -217,17 +228,10 @@ public class DebateOrchestrator {
         String finalStatus = "READY".equalsIgnoreCase(status) ? "READY" : "MAX_ITERATIONS";
         int totalIterations = transcript.size() / 2;
 
-        log.info("========================================");
-        log.info("Debate Completed!");
-        log.info("========================================");
-        log.info("Status: {}", finalStatus);
-        log.info("Total Iterations: {}", totalIterations);
-        log.info("Final Draft Length: {} characters", currentDraft.length());
-        log.info("========================================");
-        log.info("FINAL DRAFT:\n{}", currentDraft);
-        log.info("========================================");
+        finishTranscript(debateId, finalStatus, totalIterations, currentDraft);
 
         return DebateResponse.builder()
+                .debateId(debateId)
                 .prompt(request.getPrompt())
                 .transcript(transcript)
                 .finalStatus(finalStatus)
@@ -237,12 +241,14 @@ public class DebateOrchestrator {
                 .build();
     }
 
-    public void conductDebateStreaming(DebateRequest request, SseEmitter emitter) throws IOException {
-        log.info("Starting streaming debate for prompt: {}", request.getPrompt());
+    public void conductDebateStreaming(DebateRequest request, SseEventWriter writer) {
+        String debateId = UUID.randomUUID().toString();
+        beginTranscript(debateId, request.getPrompt(), true);
 
         // Send start event
-        emitter.send(DebateEvent.builder()
+        writer.send(DebateEvent.builder()
                 .type(DebateEvent.EventType.DEBATE_START)
+                .debateId(debateId)
                 .build());
 
         List<DebateMessage> transcript = new ArrayList<>();
@@ -253,11 +259,18 @@ public class DebateOrchestrator {
         int maxIterations = request.getMaxIterations();
 
         for (int i = 0; i < maxIterations; i++) {
-            log.info("=== Iteration {} ===", i + 1);
+            // A gone client can't stop us via send() any more, so check before each paid call
+            if (!writer.isOpen()) {
+                abandonTranscript(debateId, i + 1, transcript.size());
+                return;
+            }
+
+            log.info("[{}] === Iteration {} ===", debateId, i + 1);
 
             // Send iteration start event
-            emitter.send(DebateEvent.builder()
+            writer.send(DebateEvent.builder()
                     .type(DebateEvent.EventType.ITERATION_START)
+                    .debateId(debateId)
                     .build());
 
             // PROPOSER's turn
@@ -269,11 +282,12 @@ public class DebateOrchestrator {
 
             String proposerResponse = proposerChatResponse.getResult().getOutput().getText();
 
-            log.debug("PROPOSER raw response: {}", proposerResponse);
+            recordBody(debateId, "PROPOSER_RAW", i + 1, proposerResponse);
 
             try {
                 JsonNode proposerJson = parseJsonResponse(proposerResponse);
                 currentDraft = proposerJson.get("draft").asText();
+                draftHistoryStore.record(debateId, i + 1, currentDraft);
                 String proposerMessage = proposerJson.has("response")
                     ? proposerJson.get("response").asText()
                     : "Initial draft created";
@@ -285,7 +299,7 @@ public class DebateOrchestrator {
                         String source = sourceNode.asText();
                         if (!source.isEmpty() && !sources.contains(source)) {
                             sources.add(source);
-                            log.info("Added source: {}", source);
+                            log.debug("[{}] Added source: {}", debateId, source);
                         }
                     });
                 }
@@ -297,45 +311,55 @@ public class DebateOrchestrator {
                         .role("PROPOSER")
                         .content(displayContent)
                         .iteration(i + 1)
-                        .model("openai")
+                        .model(proposerProvider)
                         .status(status)
                         .build();
 
                 transcript.add(proposerMsg);
-                log.info("PROPOSER (iteration {}): status={}, draft_length={}, sources_count={}",
-                    i + 1, status, currentDraft.length(), sources.size());
-                log.info("PROPOSER Response: {}", proposerMessage);
-                log.info("PROPOSER Current Draft:\n{}", currentDraft);
+                transcriptSink.record(debateId, "PROPOSER_RESPONSE", i + 1, proposerMessage);
+                transcriptSink.record(debateId, "DRAFT", i + 1, currentDraft);
+                if (log.isInfoEnabled()) {
+                    log.info("[{}] PROPOSER (iteration {}): status={}, draft_length={}, draft_hash={}, sources_count={}",
+                        debateId, i + 1, status, currentDraft.length(),
+                        TranscriptSink.fingerprint(currentDraft), sources.size());
+                }
 
                 // Send PROPOSER response event
-                emitter.send(DebateEvent.builder()
+                writer.send(DebateEvent.builder()
                         .type(DebateEvent.EventType.PROPOSER_RESPONSE)
+                        .debateId(debateId)
                         .message(proposerMsg)
                         .build());
 
                 if ("READY".equalsIgnoreCase(status)) {
-                    log.info("PROPOSER marked draft as READY");
+                    log.info("[{}] PROPOSER marked draft as READY", debateId);
                     break;
                 }
 
             } catch (Exception e) {
-                log.error("Error parsing PROPOSER response", e);
+                log.error("[{}] Error parsing PROPOSER response", debateId, e);
                 DebateMessage errorMsg = DebateMessage.builder()
                         .role("PROPOSER")
                         .content("Error processing response: " + e.getMessage())
                         .iteration(i + 1)
-                        .model("openai")
+                        .model(proposerProvider)
                         .status("ERROR")
                         .build();
                 transcript.add(errorMsg);
-                emitter.send(DebateEvent.builder()
+                writer.send(DebateEvent.builder()
                         .type(DebateEvent.EventType.ERROR)
+                        .debateId(debateId)
                         .error(e.getMessage())
                         .message(errorMsg)
                         .build());
                 break;
             }
 
+            if (!writer.isOpen()) {
+                abandonTranscript(debateId, i + 1, transcript.size());
+                return;
+            }
+
             // CHALLENGER's turn
             String challengerPrompt = buildChallengerPrompt(request.getPrompt(), currentDraft);
             String challengerResponse = challengerClient.prompt()
@@ -343,7 +367,7 @@ public class DebateOrchestrator {
                     .call()
                     .content();
 
-            log.debug("CHALLENGER raw response: {}", challengerResponse);
+            recordBody(debateId, "CHALLENGER_RAW", i + 1, challengerResponse);
 
             try {
                 JsonNode challengerJson = parseJsonResponse(challengerResponse);
@@ -369,32 +393,38 @@ public class DebateOrchestrator {
                         .role("CHALLENGER")
                         .content(challengerFeedback)
                         .iteration(i + 1)
-                        .model("gemini")
+                        .model(challengerProvider)
                         .status("ONGOING")
                         .build();
 
                 transcript.add(challengerMsgObj);
-                log.info("CHALLENGER (iteration {}): provided critique and suggestions", i + 1);
-                log.info("CHALLENGER Critique:\n{}", challengerFeedback);
+                transcriptSink.record(debateId, "CRITIQUE", i + 1, challengerFeedback);
+                if (log.isInfoEnabled()) {
+                    log.info("[{}] CHALLENGER (iteration {}): critique_length={}, critique_hash={}",
+                        debateId, i + 1, challengerFeedback.length(),
+                        TranscriptSink.fingerprint(challengerFeedback));
+                }
 
                 // Send CHALLENGER response event
-                emitter.send(DebateEvent.builder()
+                writer.send(DebateEvent.builder()
                         .type(DebateEvent.EventType.CHALLENGER_RESPONSE)
+                        .debateId(debateId)
                         .message(challengerMsgObj)
                         .build());
 
             } catch (Exception e) {
-                log.error("Error parsing CHALLENGER response", e);
+                log.error("[{}] Error parsing CHALLENGER response", debateId, e);
                 DebateMessage errorMsg = DebateMessage.builder()
                         .role("CHALLENGER")
                         .content("Error processing response: " + e.getMessage())
                         .iteration(i + 1)
-                        .model("gemini")
+                        .model(challengerProvider)
                         .status("ERROR")
                         .build();
                 transcript.add(errorMsg);
-                emitter.send(DebateEvent.builder()
+                writer.send(DebateEvent.builder()
                         .type(DebateEvent.EventType.ERROR)
+                        .debateId(debateId)
                         .error(e.getMessage())
                         .message(errorMsg)
                         .build());
@@ -405,18 +435,11 @@ public class DebateOrchestrator {
         String finalStatus = "READY".equalsIgnoreCase(status) ? "READY" : "MAX_ITERATIONS";
         int totalIterations = transcript.size() / 2;
 
-        log.info("========================================");
-        log.info("Debate Completed!");
-        log.info("========================================");
-        log.info("Status: {}", finalStatus);
-        log.info("Total Iterations: {}", totalIterations);
-        log.info("Final Draft Length: {} characters", currentDraft.length());
-        log.info("========================================");
-        log.info("FINAL DRAFT:\n{}", currentDraft);
-        log.info("========================================");
+        finishTranscript(debateId, finalStatus, totalIterations, currentDraft);
 
         // Send completion event
         DebateResponse finalResponse = DebateResponse.builder()
+                .debateId(debateId)
                 .prompt(request.getPrompt())
                 .transcript(transcript)
                 .finalStatus(finalStatus)
@@ -425,12 +448,47 @@ public class DebateOrchestrator {
                 .sources(sources)
                 .build();
 
-        emitter.send(DebateEvent.builder()
+        writer.send(DebateEvent.builder()
                 .type(DebateEvent.EventType.DEBATE_COMPLETE)
+                .debateId(debateId)
                 .finalResponse(finalResponse)
                 .build());
     }
 
+    // Opens the transcript with the prompt and logs the start (sizes and hashes only)
+    private void beginTranscript(String debateId, String prompt, boolean streaming) {
+        transcriptSink.record(debateId, "PROMPT", 0, prompt);
+        if (log.isInfoEnabled()) {
+            log.info("[{}] Starting {}debate: prompt_length={}, prompt_hash={}",
+                debateId, streaming ? "streaming " : "", prompt.length(), TranscriptSink.fingerprint(prompt));
+        }
+    }
+
+    // Records the final draft, closes the transcript file and logs the outcome
+    private void finishTranscript(String debateId, String finalStatus, int totalIterations, String finalDraft) {
+        transcriptSink.record(debateId, "FINAL_DRAFT", totalIterations, finalDraft);
+        transcriptSink.close(debateId);
+        if (log.isInfoEnabled()) {
+            log.info("[{}] Debate completed: status={}, iterations={}, final_draft_length={}, final_draft_hash={}",
+                debateId, finalStatus, totalIterations, finalDraft.length(), TranscriptSink.fingerprint(finalDraft));
+        }
+    }
+
+    // Closes the transcript of a debate whose client went away and logs how far it got
+    private void abandonTranscript(String debateId, int iteration, int messages) {
+        transcriptSink.close(debateId);
+        log.warn("[{}] Client disconnected, abandoning debate at iteration {} ({} messages produced)",
+            debateId, iteration, messages);
+    }
+
+    private void recordBody(String debateId, String kind, int iteration, String body) {
+        transcriptSink.record(debateId, kind, iteration, body);
+        if (log.isDebugEnabled()) {
+            log.debug("[{}] {} (iteration {}): length={}, hash={}",
+                debateId, kind, iteration, body == null ? 0 : body.length(), TranscriptSink.fingerprint(body));
+        }
+    }
+
     private String buildProposerPrompt(String originalPrompt, String feedback, int iteration) {
         if (iteration == 0) {
             return String.format(
@@ -487,7 +545,8 @@ public class DebateOrchestrator {
                 try {
                     return objectMapper.readTree(extracted);
                 } catch (Exception e2) {
-                    log.error("Failed to parse extracted JSON: {}", extracted);
+                    log.error("Failed to parse extracted JSON: length={}, hash={}",
+                        extracted.length(), TranscriptSink.fingerprint(extracted));
                     throw e; // Throw original exception
                 }
             }
@@ -0,0 +1,298 @@
+package com.duodebate.service;
+
+import com.duodebate.dto.DraftDiff;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Keeps every iteration's draft for recent debates without holding each full draft.
+ *
+ * Every {@code snapshot-interval} versions (and whenever a delta would cost more than half
+ * the draft) a full snapshot is stored; the versions in between are stored as a line-level
+ * edit script against that snapshot, so only changed lines are kept. Reconstructing any
+ * iteration is therefore one snapshot lookup plus at most one delta application.
+ *
+ * Memory is bounded per debate ({@code max-chars-per-debate}, oldest snapshot groups are
+ * evicted first) and by the number of debates retained ({@code max-debates}, LRU).
+ */
+@Slf4j
+@Component
+public class DraftHistoryStore {
+
+    private final int snapshotInterval;
+    private final long maxCharsPerDebate;
+    private final Map<String, History> histories;
+
+    public DraftHistoryStore(
+            @Value("${debate.drafts.snapshot-interval:5}") int snapshotInterval,
+            @Value("${debate.drafts.max-chars-per-debate:2000000}") long maxCharsPerDebate,
+            @Value("${debate.drafts.max-debates:100}") int maxDebates) {
+
+        this.snapshotInterval = Math.max(1, snapshotInterval);
+        this.maxCharsPerDebate = maxCharsPerDebate;
+        this.histories = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, History> eldest) {
+                return size() > maxDebates;
+            }
+        };
+    }
+
+    /**
+     * Records the draft produced in the given (1-based) iteration.
+     */
+    public void record(String debateId, int iteration, String draft) {
+        History history;
+        synchronized (histories) {
+            history = histories.computeIfAbsent(debateId, id -> new History());
+        }
+        history.add(iteration, draft);
+    }
+
+    public Optional<String> getDraft(String debateId, int iteration) {
+        History history;
+        synchronized (histories) {
+            history = histories.get(debateId);
+        }
+        return history == null ? Optional.empty() : history.get(iteration);
+    }
+
+    public Optional<DraftDiff> diff(String debateId, int fromIteration, int toIteration) {
+        Optional<String> from = getDraft(debateId, fromIteration);
+        Optional<String> to = getDraft(debateId, toIteration);
+        if (from.isEmpty() || to.isEmpty()) {
+            return Optional.empty();
+        }
+
+        List<String> lines = LineDiff.diff(from.get(), to.get());
+        return Optional.of(DraftDiff.builder()
+                .debateId(debateId)
+                .fromIteration(fromIteration)
+                .toIteration(toIteration)
+                .linesAdded((int) lines.stream().filter(line -> line.startsWith("+")).count())
+                .linesRemoved((int) lines.stream().filter(line -> line.startsWith("-")).count())
+                .lines(lines)
+                .build());
+    }
+
+    /**
+     * @return iterations that can currently be reconstructed, oldest first
+     */
+    public List<Integer> getIterations(String debateId) {
+        History history;
+        synchronized (histories) {
+            history = histories.get(debateId);
+        }
+        return history == null ? List.of() : history.iterations();
+    }
+
+    // Approximate chars held for a debate; visible for tests of the delta encoding
+    long getRetainedChars(String debateId) {
+        History history;
+        synchronized (histories) {
+            history = histories.get(debateId);
+        }
+        return history == null ? 0 : history.retainedChars();
+    }
+
+    private final class History {
+
+        private final List<Version> versions = new ArrayList<>();
+        private String snapshot;
+        private int deltasSinceSnapshot;
+        private long retainedChars;
+
+        synchronized void add(int iteration, String draft) {
+            Version version;
+            if (snapshot == null || deltasSinceSnapshot >= snapshotInterval - 1) {
+                version = Version.snapshot(iteration, draft);
+            } else {
+                version = Version.delta(iteration, snapshot, draft);
+                // Rewrites can touch every line; a delta that big saves nothing
+                if (version.retainedChars() > draft.length() / 2) {
+                    version = Version.snapshot(iteration, draft);
+                }
+            }
+            if (version.isSnapshot()) {
+                snapshot = draft;
+                deltasSinceSnapshot = 0;
+            } else {
+                deltasSinceSnapshot++;
+            }
+            versions.add(version);
+            retainedChars += version.retainedChars();
+            evictOverBudget();
+        }
+
+        synchronized Optional<String> get(int iteration) {
+            for (int i = versions.size() - 1; i >= 0; i--) {
+                Version version = versions.get(i);
+                if (version.iteration() != iteration) {
+                    continue;
+                }
+                if (version.isSnapshot()) {
+                    return Optional.of(version.snapshot());
+                }
+                String base = snapshotBefore(i);
+                return Optional.of(version.applyTo(base));
+            }
+            return Optional.empty();
+        }
+
+        synchronized long retainedChars() {
+            return retainedChars;
+        }
+
+        synchronized List<Integer> iterations() {
+            return versions.stream().map(Version::iteration).toList();
+        }
+
+        private String snapshotBefore(int index) {
+            for (int i = index; i >= 0; i--) {
+                if (versions.get(i).isSnapshot()) {
+                    return versions.get(i).snapshot();
+                }
+            }
+            throw new IllegalStateException("Delta without a base snapshot");
+        }
+
+        // Drop whole snapshot groups from the front so remaining deltas keep their base
+        private void evictOverBudget() {
+            while (retainedChars > maxCharsPerDebate) {
+                int nextSnapshot = -1;
+                for (int i = 1; i < versions.size(); i++) {
+                    if (versions.get(i).isSnapshot()) {
+                        nextSnapshot = i;
+                        break;
+                    }
+                }
+                if (nextSnapshot < 0) {
+                    return; // only the current group is left; always keep it
+                }
+                List<Version> evicted = versions.subList(0, nextSnapshot);
+                long freed = evicted.stream().mapToLong(Version::retainedChars).sum();
+                log.debug("Evicting {} draft versions ({} chars) over per-debate budget", evicted.size(), freed);
+                retainedChars -= freed;
+                evicted.clear();
+            }
+        }
+    }
+
+    /**
+     * A snapshot stores the full draft. A delta stores a line-level edit script against its
+     * group's snapshot: runs of snapshot lines to copy, and the lines inserted between them.
+     */
+    private record Version(int iteration, String snapshot, List<Chunk> script) {
+
+        // Rough per-chunk bookkeeping cost, in chars, for the memory budget
+        private static final int CHUNK_OVERHEAD = 8;
+
+        static Version snapshot(int iteration, String draft) {
+            return new Version(iteration, draft, null);
+        }
+
+        static Version delta(int iteration, String base, String draft) {
+            List<Chunk> script = new ArrayList<>();
+            int copyStart = -1;
+            int copyLength = 0;
+            List<String> inserted = null;
+
+            for (LineDiff.Edit edit : LineDiff.edits(base, draft)) {
+                switch (edit.op()) {
+                    case LineDiff.Edit.KEEP -> {
+                        if (inserted != null) {
+                            script.add(Chunk.insert(inserted));
+                            inserted = null;
+                        }
+                        if (copyLength > 0 && copyStart + copyLength == edit.fromLine()) {
+                            copyLength++;
+                        } else {
+                            if (copyLength > 0) {
+                                script.add(Chunk.copy(copyStart, copyLength));
+                            }
+                            copyStart = edit.fromLine();
+                            copyLength = 1;
+                        }
+                    }
+                    case LineDiff.Edit.ADD -> {
+                        if (copyLength > 0) {
+                            script.add(Chunk.copy(copyStart, copyLength));
+                            copyLength = 0;
+                        }
+                        if (inserted == null) {
+                            inserted = new ArrayList<>();
+                        }
+                        inserted.add(edit.text());
+                    }
+                    default -> {
+                        // Removed lines are simply not copied
+                    }
+                }
+            }
+            if (copyLength > 0) {
+                script.add(Chunk.copy(copyStart, copyLength));
+            }
+            if (inserted != null) {
+                script.add(Chunk.insert(inserted));
+            }
+            return new Version(iteration, null, List.copyOf(script));
+        }
+
+        boolean isSnapshot() {
+            return snapshot != null;
+        }
+
+        String applyTo(String base) {
+            // A view over the split array, so copy chunks don't duplicate the snapshot
+            List<String> baseLines = Arrays.asList(LineDiff.lines(base));
+            List<String> lines = new ArrayList<>();
+            for (Chunk chunk : script) {
+                if (chunk.inserted() != null) {
+                    lines.addAll(chunk.inserted());
+                } else {
+                    lines.addAll(baseLines.subList(chunk.copyStart(), chunk.copyStart() + chunk.copyLength()));
+                }
+            }
+            return String.join("\n", lines);
+        }
+
+        long retainedChars() {
+            if (isSnapshot()) {
+                return snapshot.length();
+            }
+            long chars = 0;
+            for (Chunk chunk : script) {
+                chars += CHUNK_OVERHEAD;
+                if (chunk.inserted() != null) {
+                    for (String line : chunk.inserted()) {
+                        chars += line.length() + 1;
+                    }
+                }
+            }
+            return chars;
+        }
+    }
+
+    /**
+     * Either a run of {@code copyLength} base lines starting at {@code copyStart}, or
+     * {@code inserted} lines that are new in this version.
+     */
+    private record Chunk(int copyStart, int copyLength, List<String> inserted) {
+
+        static Chunk copy(int start, int length) {
+            return new Chunk(start, length, null);
+        }
+
+        static Chunk insert(List<String> lines) {
+            return new Chunk(-1, 0, List.copyOf(lines));
+        }
+    }
+}
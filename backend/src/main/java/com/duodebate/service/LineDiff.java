@@ -0,0 +1,112 @@
+package com.duodebate.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal line-based diff (LCS). Common leading/trailing lines are trimmed first,
+ * which keeps the table small for typical draft revisions.
+ *
+ * {@link #edits} is the edit script {@link DraftHistoryStore} stores deltas as;
+ * {@link #diff} renders it as unified-style lines: " " unchanged, "-" removed, "+" added.
+ */
+final class LineDiff {
+
+    // Above this many LCS cells the middle is reported as a plain remove/add block
+    private static final long MAX_CELLS = 4_000_000L;
+
+    private LineDiff() {
+    }
+
+    /**
+     * One line of the script. {@code fromLine} is the line's index in the old text for
+     * kept and removed lines, -1 for added lines.
+     */
+    record Edit(char op, String text, int fromLine) {
+
+        static final char KEEP = ' ';
+        static final char REMOVE = '-';
+        static final char ADD = '+';
+    }
+
+    static List<String> diff(String from, String to) {
+        return edits(from, to).stream()
+                .map(edit -> edit.op() + edit.text())
+                .toList();
+    }
+
+    static String[] lines(String text) {
+        return text.split("\n", -1);
+    }
+
+    static List<Edit> edits(String from, String to) {
+        String[] a = lines(from);
+        String[] b = lines(to);
+
+        int prefix = 0;
+        while (prefix < a.length && prefix < b.length && a[prefix].equals(b[prefix])) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < a.length - prefix && suffix < b.length - prefix
+                && a[a.length - 1 - suffix].equals(b[b.length - 1 - suffix])) {
+            suffix++;
+        }
+
+        List<Edit> edits = new ArrayList<>();
+        for (int i = 0; i < prefix; i++) {
+            edits.add(new Edit(Edit.KEEP, a[i], i));
+        }
+
+        int aEnd = a.length - suffix;
+        int bEnd = b.length - suffix;
+        int n = aEnd - prefix;
+        int m = bEnd - prefix;
+
+        if ((long) n * m > MAX_CELLS) {
+            for (int i = prefix; i < aEnd; i++) {
+                edits.add(new Edit(Edit.REMOVE, a[i], i));
+            }
+            for (int j = prefix; j < bEnd; j++) {
+                edits.add(new Edit(Edit.ADD, b[j], -1));
+            }
+        } else {
+            int[][] lcs = new int[n + 1][m + 1];
+            for (int i = n - 1; i >= 0; i--) {
+                for (int j = m - 1; j >= 0; j--) {
+                    lcs[i][j] = a[prefix + i].equals(b[prefix + j])
+                            ? lcs[i + 1][j + 1] + 1
+                            : Math.max(lcs[i + 1][j], lcs[i][j + 1]);
+                }
+            }
+            int i = 0;
+            int j = 0;
+            while (i < n && j < m) {
+                if (a[prefix + i].equals(b[prefix + j])) {
+                    edits.add(new Edit(Edit.KEEP, a[prefix + i], prefix + i));
+                    i++;
+                    j++;
+                } else if (lcs[i + 1][j] >= lcs[i][j + 1]) {
+                    edits.add(new Edit(Edit.REMOVE, a[prefix + i], prefix + i));
+                    i++;
+                } else {
+                    edits.add(new Edit(Edit.ADD, b[prefix + j], -1));
+                    j++;
+                }
+            }
+            while (i < n) {
+                edits.add(new Edit(Edit.REMOVE, a[prefix + i], prefix + i));
+                i++;
+            }
+            while (j < m) {
+                edits.add(new Edit(Edit.ADD, b[prefix + j], -1));
+                j++;
+            }
+        }
+
+        for (int i = aEnd; i < a.length; i++) {
+            edits.add(new Edit(Edit.KEEP, a[i], i));
+        }
+        return edits;
+    }
+}
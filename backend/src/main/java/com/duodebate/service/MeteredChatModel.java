@@ -0,0 +1,119 @@
+package com.duodebate.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Wraps a role's ChatModel to cap in-flight calls at the server's parallel slot count
+ * and report per-turn throughput.
+ *
+ * Local servers (Ollama, llama.cpp, vLLM) queue or thrash when more requests arrive than
+ * they have slots for, so callers wait here instead of on the server. The semaphore is
+ * shared by every role that talks to the same server.
+ */
+@Slf4j
+public class MeteredChatModel implements ChatModel {
+
+    private final ChatModel delegate;
+    private final String role;
+    private final Semaphore slots;
+
+    /**
+     * @param slots shared per-server limit, or null for unlimited
+     */
+    public MeteredChatModel(ChatModel delegate, String role, Semaphore slots) {
+        this.delegate = delegate;
+        this.role = role;
+        this.slots = slots;
+    }
+
+    @Override
+    public ChatResponse call(Prompt prompt) {
+        long queuedAt = System.nanoTime();
+        long startedAt = acquire();
+        try {
+            ChatResponse response = delegate.call(prompt);
+            long finishedAt = System.nanoTime();
+            if (log.isInfoEnabled()) {
+                logTurn(response, startedAt - queuedAt, finishedAt - startedAt);
+            }
+            return response;
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Holds a slot from subscription until the stream completes, fails or is cancelled.
+     * Usage is read from the last chunk, where providers report the totals.
+     */
+    @Override
+    public Flux<ChatResponse> stream(Prompt prompt) {
+        Flux<ChatResponse> metered = Flux.defer(() -> {
+            long queuedAt = System.nanoTime();
+            return Flux.using(this::acquire, startedAt -> {
+                AtomicReference<ChatResponse> last = new AtomicReference<>();
+                return delegate.stream(prompt)
+                        .doOnNext(last::set)
+                        .doOnComplete(() -> {
+                            if (log.isInfoEnabled()) {
+                                logTurn(last.get(), startedAt - queuedAt, System.nanoTime() - startedAt);
+                            }
+                        });
+            }, startedAt -> release());
+        });
+        // Waiting for a slot blocks, so keep it off the subscriber's (possibly event-loop) thread
+        return slots != null ? metered.subscribeOn(Schedulers.boundedElastic()) : metered;
+    }
+
+    @Override
+    public ChatOptions getDefaultOptions() {
+        return delegate.getDefaultOptions();
+    }
+
+    // Returns once the call may start, with the start time
+    private long acquire() {
+        if (slots != null) {
+            slots.acquireUninterruptibly();
+        }
+        return System.nanoTime();
+    }
+
+    private void release() {
+        if (slots != null) {
+            slots.release();
+        }
+    }
+
+    private void logTurn(ChatResponse response, long waitNanos, long callNanos) {
+        Usage usage = response != null && response.getMetadata() != null
+                ? response.getMetadata().getUsage()
+                : null;
+        Integer completionTokens = usage != null ? usage.getCompletionTokens() : null;
+        long callMillis = callNanos / 1_000_000;
+
+        if (completionTokens == null || completionTokens == 0 || callNanos == 0) {
+            log.info("{} turn: elapsed_ms={}, slot_wait_ms={}, tokens=unknown",
+                    role, callMillis, waitNanos / 1_000_000);
+            return;
+        }
+
+        double tokensPerSecond = tokensPerSecond(completionTokens, callNanos);
+        log.info("{} turn: elapsed_ms={}, slot_wait_ms={}, prompt_tokens={}, completion_tokens={}, tokens_per_sec={}",
+                role, callMillis, waitNanos / 1_000_000, usage.getPromptTokens(), completionTokens,
+                String.format("%.1f", tokensPerSecond));
+    }
+
+    static double tokensPerSecond(int completionTokens, long callNanos) {
+        return completionTokens / (callNanos / 1_000_000_000.0);
+    }
+}
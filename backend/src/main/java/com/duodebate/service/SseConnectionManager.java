@@ -0,0 +1,67 @@
+package com.duodebate.service;
+
+import com.duodebate.dto.SseConnectionMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Creates an {@link SseEventWriter} per streaming connection and tracks the open ones
+ * so their queue depth and drop counts can be inspected.
+ */
+@Slf4j
+@Component
+public class SseConnectionManager {
+
+    private final int queueCapacity;
+    private final long heartbeatSeconds;
+    private final Map<String, SseEventWriter> writers = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService heartbeatScheduler = Executors.newSingleThreadScheduledExecutor(
+            runnable -> Thread.ofPlatform().name("sse-heartbeat").daemon(true).unstarted(runnable));
+
+    public SseConnectionManager(
+            @Value("${debate.sse.queue-capacity:32}") int queueCapacity,
+            @Value("${debate.sse.heartbeat-seconds:15}") long heartbeatSeconds) {
+        this.queueCapacity = queueCapacity;
+        this.heartbeatSeconds = heartbeatSeconds;
+    }
+
+    public SseEventWriter open(SseEmitter emitter) {
+        String connectionId = UUID.randomUUID().toString().substring(0, 8);
+        SseEventWriter writer = new SseEventWriter(connectionId, emitter, queueCapacity, heartbeatSeconds,
+                this::closed);
+        writers.put(connectionId, writer);
+        writer.start(heartbeatScheduler);
+        return writer;
+    }
+
+    public List<SseConnectionMetrics> getMetrics() {
+        return writers.values().stream()
+                .map(SseEventWriter::getMetrics)
+                .toList();
+    }
+
+    private void closed(SseEventWriter writer) {
+        writers.remove(writer.getConnectionId());
+        if (log.isInfoEnabled()) {
+            SseConnectionMetrics metrics = writer.getMetrics();
+            log.info("[{}] SSE connection closed: debate={}, stalled={}, sent={}, coalesced={}, dropped={}, heartbeats={}, max_queue_depth={}",
+                    metrics.getConnectionId(), metrics.getDebateId(), metrics.getStalled(), metrics.getSent(), metrics.getCoalesced(),
+                    metrics.getDropped(), metrics.getHeartbeats(), metrics.getMaxQueueDepth());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeatScheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,246 @@
+package com.duodebate.service;
+
+import com.duodebate.dto.DebateEvent;
+import com.duodebate.dto.SseConnectionMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Decouples debate progress from socket writes for one SSE connection.
+ *
+ * {@link #send} never blocks: events are queued and written by a dedicated virtual
+ * thread, so a slow client or buffering proxy cannot hold up the debate thread.
+ *
+ * Structural events (responses, completion, errors) are delivered in order or not at all.
+ * Progress events ({@code ITERATION_START}) and heartbeats are best-effort: a pending
+ * one is coalesced away as soon as a newer event is queued behind it, and they are
+ * dropped outright once {@code capacity} events are waiting.
+ *
+ * The queue never holds more than {@code capacity} events. A structural event that
+ * would exceed it means the client has stalled without disconnecting, so the writer
+ * closes instead of buffering; {@link #isOpen()} turns false and the debate stops.
+ */
+@Slf4j
+public class SseEventWriter {
+
+    private final String connectionId;
+    private final SseEmitter emitter;
+    private final int capacity;
+    private final long heartbeatNanos;
+    private final long heartbeatCheckNanos;
+    private final Consumer<SseEventWriter> onClose;
+
+    // Guarded by this
+    private final Deque<Outbound> queue = new ArrayDeque<>();
+    private boolean closed;
+    private boolean stalled;
+    private String debateId;
+    private int maxQueueDepth;
+    private long sent;
+    private long coalesced;
+    private long dropped;
+    private long heartbeats;
+
+    private volatile long lastWriteNanos = System.nanoTime();
+    private volatile ScheduledFuture<?> heartbeatTask;
+
+    SseEventWriter(String connectionId, SseEmitter emitter, int capacity, long heartbeatSeconds,
+                   Consumer<SseEventWriter> onClose) {
+        this.connectionId = connectionId;
+        this.emitter = emitter;
+        this.capacity = capacity;
+        this.heartbeatNanos = TimeUnit.SECONDS.toNanos(heartbeatSeconds);
+        this.heartbeatCheckNanos = heartbeatNanos / 2;
+        this.onClose = onClose;
+
+        emitter.onCompletion(this::close);
+        emitter.onTimeout(this::close);
+        emitter.onError(e -> close());
+    }
+
+    void start(ScheduledExecutorService scheduler) {
+        Thread.ofVirtual().name("sse-writer-" + connectionId).start(this::drain);
+        if (heartbeatNanos > 0) {
+            heartbeatTask = scheduler.scheduleAtFixedRate(this::heartbeat,
+                    heartbeatCheckNanos, heartbeatCheckNanos, TimeUnit.NANOSECONDS);
+            if (!isOpen()) {
+                heartbeatTask.cancel(false);
+            }
+        }
+    }
+
+    public void send(DebateEvent event) {
+        boolean progress = event.getType() == DebateEvent.EventType.ITERATION_START;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            if (debateId == null) {
+                debateId = event.getDebateId();
+            }
+            // Whatever progress marker is still waiting is stale now
+            Outbound tail = queue.peekLast();
+            if (tail != null && tail.isProgress()) {
+                queue.pollLast();
+                if (tail.kind() == Kind.EVENT) {
+                    coalesced++;
+                }
+            }
+            if (queue.size() < capacity) {
+                enqueue(new Outbound(Kind.EVENT, event, progress, null));
+                return;
+            }
+            if (progress) {
+                dropped++;
+                return;
+            }
+            stalled = true;
+        }
+        log.warn("[{}] SSE client stalled with {} events queued, closing connection for debate {}",
+                connectionId, capacity, debateId);
+        close();
+    }
+
+    /**
+     * Flushes everything queued so far, then completes the response.
+     */
+    public void complete() {
+        finish(null);
+    }
+
+    public void completeWithError(Throwable error) {
+        finish(error);
+    }
+
+    public synchronized boolean isOpen() {
+        return !closed;
+    }
+
+    public String getConnectionId() {
+        return connectionId;
+    }
+
+    public synchronized SseConnectionMetrics getMetrics() {
+        return SseConnectionMetrics.builder()
+                .connectionId(connectionId)
+                .debateId(debateId)
+                .open(!closed)
+                .stalled(stalled)
+                .queueDepth(queue.size())
+                .maxQueueDepth(maxQueueDepth)
+                .sent(sent)
+                .coalesced(coalesced)
+                .dropped(dropped)
+                .heartbeats(heartbeats)
+                .build();
+    }
+
+    private synchronized void finish(Throwable error) {
+        if (!closed) {
+            enqueue(new Outbound(Kind.COMPLETE, null, false, error));
+        }
+    }
+
+    // Checked every half interval; sending once idle for half an interval keeps every gap
+    // at or under heartbeat-seconds no matter where the last write fell between checks
+    private void heartbeat() {
+        synchronized (this) {
+            if (closed || !queue.isEmpty()
+                    || System.nanoTime() - lastWriteNanos < heartbeatNanos - heartbeatCheckNanos) {
+                return;
+            }
+            enqueue(new Outbound(Kind.HEARTBEAT, null, true, null));
+        }
+    }
+
+    // Caller holds the lock
+    private void enqueue(Outbound outbound) {
+        queue.addLast(outbound);
+        maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+        notifyAll();
+    }
+
+    private void drain() {
+        while (true) {
+            Outbound next;
+            synchronized (this) {
+                while (queue.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        close();
+                        return;
+                    }
+                }
+                if (closed) {
+                    if (stalled) {
+                        // The response is still open; release it now rather than at the emitter timeout
+                        emitter.complete();
+                    }
+                    return;
+                }
+                next = queue.pollFirst();
+            }
+
+            try {
+                switch (next.kind()) {
+                    case EVENT -> emitter.send(next.event());
+                    case HEARTBEAT -> emitter.send(SseEmitter.event().comment("heartbeat"));
+                    case COMPLETE -> {
+                        if (next.error() != null) {
+                            emitter.completeWithError(next.error());
+                        } else {
+                            emitter.complete();
+                        }
+                        close();
+                        return;
+                    }
+                }
+                lastWriteNanos = System.nanoTime();
+                synchronized (this) {
+                    if (next.kind() == Kind.HEARTBEAT) {
+                        heartbeats++;
+                    } else {
+                        sent++;
+                    }
+                }
+            } catch (Exception e) {
+                log.debug("[{}] SSE write failed, client gone: {}", connectionId, e.getMessage());
+                close();
+                return;
+            }
+        }
+    }
+
+    private void close() {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            queue.clear();
+            notifyAll();
+        }
+        if (heartbeatTask != null) {
+            heartbeatTask.cancel(false);
+        }
+        onClose.accept(this);
+    }
+
+    private enum Kind {
+        EVENT,
+        HEARTBEAT,
+        COMPLETE
+    }
+
+    private record Outbound(Kind kind, DebateEvent event, boolean isProgress, Throwable error) {
+    }
+}
@@ -0,0 +1,231 @@
+package com.duodebate.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes full debate bodies (prompts, raw model output, drafts, critiques) to one
+ * gzip-compressed JSON-lines file per debate, off the debate thread.
+ *
+ * Callers only enqueue references to strings they already hold; truncation, JSON
+ * encoding, compression and file I/O all happen on a single background writer.
+ * When the queue is full the entry is dropped and counted rather than blocking.
+ *
+ * Files are only ever appended to: a transcript reopened after an idle close gets a
+ * new gzip member, which {@code zcat} and {@link java.util.zip.GZIPInputStream} read
+ * transparently.
+ */
+@Slf4j
+@Component
+public class TranscriptSink {
+
+    private static final long IDLE_CLOSE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+    private static final long DROP_WARN_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int maxBodyChars;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<Entry> queue;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong lastDropWarn = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Only touched by the writer thread
+    private final Map<String, OutputStream> openFiles = new HashMap<>();
+    private final Map<String, Long> lastWrite = new HashMap<>();
+
+    public TranscriptSink(
+            @Value("${debate.transcript.enabled:true}") boolean enabled,
+            @Value("${debate.transcript.dir:logs/transcripts}") String directory,
+            @Value("${debate.transcript.queue-capacity:1024}") int queueCapacity,
+            @Value("${debate.transcript.max-body-chars:65536}") int maxBodyChars,
+            ObjectMapper objectMapper) {
+
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        this.maxBodyChars = maxBodyChars;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+
+        if (enabled) {
+            this.writer = Thread.ofPlatform()
+                    .name("transcript-writer")
+                    .daemon(true)
+                    .start(this::drainLoop);
+            log.info("Transcript sink writing to {} (queue={}, maxBodyChars={})",
+                    this.directory.toAbsolutePath(), queueCapacity, maxBodyChars);
+        } else {
+            this.writer = null;
+            log.info("Transcript sink disabled");
+        }
+    }
+
+    /**
+     * Queues a body for the debate's transcript file. Never blocks; if the queue is
+     * full the entry is dropped and counted.
+     */
+    public void record(String debateId, String kind, int iteration, String body) {
+        if (!enabled || body == null) {
+            return;
+        }
+        if (!queue.offer(new Entry(debateId, kind, iteration, body, System.currentTimeMillis(), false))) {
+            onDrop(debateId, kind);
+        }
+    }
+
+    /**
+     * Queues a close marker behind the debate's entries so its file is flushed and
+     * closed once they have been written. If the queue is full the file is left to
+     * the idle reaper instead.
+     */
+    public void close(String debateId) {
+        if (enabled) {
+            queue.offer(new Entry(debateId, null, 0, null, System.currentTimeMillis(), true));
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public long getWrittenCount() {
+        return written.get();
+    }
+
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    public Map<String, Long> getMetrics() {
+        return Map.of(
+            "queueDepth", (long) queue.size(),
+            "written", written.get(),
+            "dropped", dropped.get()
+        );
+    }
+
+    // Runs on the debate thread, so at most one WARN per interval
+    private void onDrop(String debateId, String kind) {
+        long total = dropped.incrementAndGet();
+        long now = System.currentTimeMillis();
+        long last = lastDropWarn.get();
+        if (now - last >= DROP_WARN_INTERVAL_MILLIS && lastDropWarn.compareAndSet(last, now)) {
+            log.warn("[{}] Transcript queue full, dropping entries (latest={}, total dropped={})",
+                    debateId, kind, total);
+        }
+    }
+
+    /**
+     * Short, cheap content fingerprint for log lines that must not carry the body itself.
+     */
+    public static String fingerprint(String text) {
+        return text == null ? "null" : Integer.toHexString(text.hashCode());
+    }
+
+    private void drainLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(1, TimeUnit.SECONDS);
+                if (entry == null) {
+                    closeIdle();
+                } else if (entry.close()) {
+                    closeFile(entry.debateId());
+                } else {
+                    write(entry);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                log.warn("Transcript writer error: {}", e.getMessage());
+            }
+        }
+        List.copyOf(openFiles.keySet()).forEach(this::closeFile);
+    }
+
+    private void write(Entry entry) throws IOException {
+        OutputStream out = openFiles.get(entry.debateId());
+        if (out == null) {
+            Files.createDirectories(directory);
+            Path file = directory.resolve(entry.debateId() + ".jsonl.gz");
+            out = new GZIPOutputStream(Files.newOutputStream(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND), 8192);
+            openFiles.put(entry.debateId(), out);
+        }
+        lastWrite.put(entry.debateId(), System.currentTimeMillis());
+
+        String body = entry.body();
+        boolean truncated = body.length() > maxBodyChars;
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", entry.timestamp());
+        line.put("kind", entry.kind());
+        line.put("iteration", entry.iteration());
+        line.put("chars", body.length());
+        line.put("truncated", truncated);
+        line.put("body", truncated ? body.substring(0, maxBodyChars) : body);
+
+        out.write(objectMapper.writeValueAsBytes(line));
+        out.write('\n');
+        written.incrementAndGet();
+    }
+
+    // Debates that failed mid-way never call close(); don't hold their files open forever
+    private void closeIdle() {
+        long cutoff = System.currentTimeMillis() - IDLE_CLOSE_MILLIS;
+        lastWrite.entrySet().stream()
+                .filter(e -> e.getValue() < cutoff)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(this::closeFile);
+    }
+
+    private void closeFile(String debateId) {
+        lastWrite.remove(debateId);
+        OutputStream out = openFiles.remove(debateId);
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                log.warn("[{}] Failed to close transcript: {}", debateId, e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+        if (dropped.get() > 0) {
+            log.warn("Transcript sink dropped {} entries (written={})", dropped.get(), written.get());
+        }
+    }
+
+    // close marks the debate's close marker; only close() creates one
+    private record Entry(String debateId, String kind, int iteration, String body, long timestamp,
+                         boolean close) {
+    }
+}
@@ -0,0 +1,184 @@
+package com.duodebate.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.google.genai.GoogleGenAiChatModel;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Runs ChatModelFactory-built models against a local stand-in server speaking the
+ * Ollama and OpenAI chat APIs.
+ */
+class ChatModelFactoryTest {
+
+    private static final String OLLAMA_RESPONSE = """
+            {"model":"llama3","created_at":"2024-01-01T00:00:00Z",
+             "message":{"role":"assistant","content":"hello"},
+             "done":true,"done_reason":"stop","prompt_eval_count":5,"eval_count":20}
+            """;
+
+    private static final String OPENAI_RESPONSE = """
+            {"id":"chatcmpl-1","object":"chat.completion","created":1,"model":"local",
+             "choices":[{"index":0,"message":{"role":"assistant","content":"hello"},"finish_reason":"stop"}],
+             "usage":{"prompt_tokens":5,"completion_tokens":20,"total_tokens":25}}
+            """;
+
+    private final List<String> requestBodies = new CopyOnWriteArrayList<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile long responseDelayMillis;
+
+    private HttpServer server;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/chat", exchange -> respond(exchange, OLLAMA_RESPONSE));
+        server.createContext("/v1/chat/completions", exchange -> respond(exchange, OPENAI_RESPONSE));
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void ollamaRequestsCarryKeepAlive() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("debate.proposer.provider", "ollama")
+                .withProperty("debate.proposer.model", "llama3")
+                .withProperty("debate.proposer.base-url", baseUrl)
+                .withProperty("debate.proposer.keep-alive", "24h");
+
+        String reply = factory(env).create("proposer").call("hi");
+
+        assertThat(reply).isEqualTo("hello");
+        assertThat(requestBodies).hasSize(1);
+        assertThat(requestBodies.get(0))
+                .contains("\"keep_alive\":\"24h\"")
+                .contains("\"model\":\"llama3\"");
+    }
+
+    @Test
+    void bareKeepAliveNumbersGetAUnit() {
+        assertThat(ChatModelFactory.normalizeKeepAlive("-1")).isEqualTo("-1s");
+        assertThat(ChatModelFactory.normalizeKeepAlive("3600")).isEqualTo("3600s");
+        assertThat(ChatModelFactory.normalizeKeepAlive("30m")).isEqualTo("30m");
+    }
+
+    @Test
+    void rolesOnTheSameServerShareOneSlotLimit() throws Exception {
+        responseDelayMillis = 200;
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("debate.proposer.provider", "openai")
+                .withProperty("debate.proposer.model", "local")
+                .withProperty("debate.proposer.base-url", baseUrl)
+                .withProperty("debate.proposer.max-concurrency", "2")
+                .withProperty("debate.challenger.provider", "openai")
+                .withProperty("debate.challenger.model", "local")
+                .withProperty("debate.challenger.base-url", baseUrl + "/")
+                .withProperty("debate.challenger.max-concurrency", "2");
+        ChatModelFactory factory = factory(env);
+        ChatModel proposer = factory.create("proposer");
+        ChatModel challenger = factory.create("challenger");
+
+        ExecutorService callers = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<String>> replies = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                replies.add(callers.submit(() -> proposer.call("hi")));
+                replies.add(callers.submit(() -> challenger.call("hi")));
+            }
+            for (Future<String> reply : replies) {
+                assertThat(reply.get(10, TimeUnit.SECONDS)).isEqualTo("hello");
+            }
+        } finally {
+            callers.shutdownNow();
+        }
+
+        assertThat(requestBodies).hasSize(6);
+        assertThat(maxInFlight.get()).isEqualTo(2);
+    }
+
+    @Test
+    void geminiIsRejectedForTheProposer() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("debate.proposer.provider", "gemini");
+
+        assertThatThrownBy(() -> factory(env).create("proposer"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("only the challenger");
+    }
+
+    @Test
+    void hostedOpenAiWithoutAnApiKeyFailsAtWiring() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("debate.proposer.provider", "openai")
+                .withProperty("debate.proposer.model", "gpt-4o");
+
+        assertThatThrownBy(() -> factory(env).create("proposer"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("PROPOSER_API_KEY");
+    }
+
+    @Test
+    void localOpenAiCompatibleServerNeedsNoApiKey() {
+        MockEnvironment env = new MockEnvironment()
+                .withProperty("debate.proposer.provider", "openai")
+                .withProperty("debate.proposer.model", "local")
+                .withProperty("debate.proposer.base-url", baseUrl);
+
+        assertThat(factory(env).create("proposer").call("hi")).isEqualTo("hello");
+    }
+
+    private ChatModelFactory factory(MockEnvironment env) {
+        return new ChatModelFactory(env,
+                new StaticListableBeanFactory().getBeanProvider(GoogleGenAiChatModel.class));
+    }
+
+    private void respond(HttpExchange exchange, String body) throws IOException {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+        try {
+            requestBodies.add(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            if (responseDelayMillis > 0) {
+                Thread.sleep(responseDelayMillis);
+            }
+            // Leave the in-flight count before the client can see the response and send its next call
+            inFlight.decrementAndGet();
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            exchange.getResponseBody().write(bytes);
+        } catch (InterruptedException e) {
+            inFlight.decrementAndGet();
+            Thread.currentThread().interrupt();
+        } finally {
+            exchange.close();
+        }
+    }
+}
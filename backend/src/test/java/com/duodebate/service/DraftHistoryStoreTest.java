@@ -0,0 +1,127 @@
+package com.duodebate.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DraftHistoryStoreTest {
+
+    private static final String DEBATE = "debate-1";
+
+    @Test
+    void everyIterationRoundTripsAcrossSnapshotBoundaries() {
+        DraftHistoryStore store = new DraftHistoryStore(3, Long.MAX_VALUE, 10);
+        List<String> drafts = revisions(10);
+        record(store, drafts);
+
+        assertThat(store.getIterations(DEBATE)).containsExactlyElementsOf(IntStream.rangeClosed(1, 10).boxed().toList());
+        for (int iteration = 1; iteration <= drafts.size(); iteration++) {
+            assertThat(store.getDraft(DEBATE, iteration)).contains(drafts.get(iteration - 1));
+        }
+    }
+
+    @Test
+    void smallRevisionsAreStoredAsCompactDeltas() {
+        DraftHistoryStore store = new DraftHistoryStore(5, Long.MAX_VALUE, 10);
+        List<String> drafts = revisions(5);
+        record(store, drafts);
+
+        // One snapshot plus four deltas that only hold the rewritten lines
+        assertThat(store.getRetainedChars(DEBATE)).isLessThan(drafts.get(0).length() + 1_000L);
+    }
+
+    @Test
+    void fullRewriteIsPromotedToASnapshotAndStillRoundTrips() {
+        DraftHistoryStore store = new DraftHistoryStore(5, Long.MAX_VALUE, 10);
+        store.record(DEBATE, 1, "alpha\nbeta\ngamma");
+        store.record(DEBATE, 2, "one\ntwo\nthree");
+        store.record(DEBATE, 3, "one\ntwo\nthree\nfour");
+
+        assertThat(store.getDraft(DEBATE, 1)).contains("alpha\nbeta\ngamma");
+        assertThat(store.getDraft(DEBATE, 2)).contains("one\ntwo\nthree");
+        assertThat(store.getDraft(DEBATE, 3)).contains("one\ntwo\nthree\nfour");
+    }
+
+    @Test
+    void emptyDraftsAndTrailingNewlinesRoundTrip() {
+        DraftHistoryStore store = new DraftHistoryStore(5, Long.MAX_VALUE, 10);
+        List<String> drafts = List.of("a\nb\n", "", "a\nb", "a\nb\n\n", "\n");
+        record(store, drafts);
+
+        for (int iteration = 1; iteration <= drafts.size(); iteration++) {
+            assertThat(store.getDraft(DEBATE, iteration)).contains(drafts.get(iteration - 1));
+        }
+    }
+
+    @Test
+    void evictionDropsWholeOldGroupsAndKeepsTheRestReconstructible() {
+        List<String> drafts = revisions(12);
+        // Room for roughly two snapshot groups of three
+        long budget = 2 * drafts.get(0).length() + 500;
+        DraftHistoryStore store = new DraftHistoryStore(3, budget, 10);
+        record(store, drafts);
+
+        List<Integer> retained = store.getIterations(DEBATE);
+        assertThat(retained).contains(12).doesNotContain(1);
+        // Groups start at iterations 1, 4, 7, 10; eviction never splits one
+        assertThat(retained.get(0) % 3).isEqualTo(1);
+        for (int iteration = 1; iteration <= drafts.size(); iteration++) {
+            if (retained.contains(iteration)) {
+                assertThat(store.getDraft(DEBATE, iteration)).contains(drafts.get(iteration - 1));
+            } else {
+                assertThat(store.getDraft(DEBATE, iteration)).isEmpty();
+            }
+        }
+    }
+
+    @Test
+    void leastRecentlyUsedDebateIsDroppedBeyondTheCap() {
+        DraftHistoryStore store = new DraftHistoryStore(5, Long.MAX_VALUE, 2);
+        store.record("a", 1, "draft a");
+        store.record("b", 1, "draft b");
+        store.getDraft("a", 1);
+        store.record("c", 1, "draft c");
+
+        assertThat(store.getDraft("a", 1)).contains("draft a");
+        assertThat(store.getDraft("b", 1)).isEmpty();
+        assertThat(store.getDraft("c", 1)).contains("draft c");
+    }
+
+    @Test
+    void diffComparesReconstructedDrafts() {
+        DraftHistoryStore store = new DraftHistoryStore(5, Long.MAX_VALUE, 10);
+        store.record(DEBATE, 1, "a\nb\nc");
+        store.record(DEBATE, 2, "a\nB\nc");
+
+        assertThat(store.diff(DEBATE, 1, 2)).hasValueSatisfying(diff -> {
+            assertThat(diff.getLines()).containsExactly(" a", "-b", "+B", " c");
+            assertThat(diff.getLinesAdded()).isEqualTo(1);
+            assertThat(diff.getLinesRemoved()).isEqualTo(1);
+        });
+        assertThat(store.diff(DEBATE, 1, 3)).isEmpty();
+    }
+
+    // 40-line draft where each revision rewrites one line
+    private static List<String> revisions(int count) {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            lines.add("Paragraph " + i + " of the draft, with enough text to make a full copy expensive.");
+        }
+        List<String> drafts = new ArrayList<>();
+        for (int iteration = 1; iteration <= count; iteration++) {
+            lines.set((iteration * 7) % lines.size(), "Revised in iteration " + iteration + ".");
+            drafts.add(String.join("\n", lines));
+        }
+        return drafts;
+    }
+
+    private static void record(DraftHistoryStore store, List<String> drafts) {
+        for (int iteration = 1; iteration <= drafts.size(); iteration++) {
+            store.record(DEBATE, iteration, drafts.get(iteration - 1));
+        }
+    }
+}
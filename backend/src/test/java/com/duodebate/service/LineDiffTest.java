@@ -0,0 +1,43 @@
+package com.duodebate.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LineDiffTest {
+
+    @Test
+    void emptyInputsProduceASingleUnchangedLine() {
+        assertThat(LineDiff.diff("", "")).containsExactly(" ");
+    }
+
+    @Test
+    void identicalInputsAreAllUnchanged() {
+        assertThat(LineDiff.diff("a\nb\nc", "a\nb\nc")).containsExactly(" a", " b", " c");
+    }
+
+    @Test
+    void fullyRewrittenInputRemovesThenAddsEverything() {
+        assertThat(LineDiff.diff("a\nb", "c\nd")).containsExactly("-a", "-b", "+c", "+d");
+    }
+
+    @Test
+    void addingToEmptyInputReplacesTheEmptyLine() {
+        assertThat(LineDiff.diff("", "x\ny")).containsExactly("-", "+x", "+y");
+    }
+
+    @Test
+    void changesBetweenCommonPrefixAndSuffixAreLocalised() {
+        assertThat(LineDiff.diff("a\nb\nc\nd\ne", "a\nB\nc\ne\nf"))
+                .containsExactly(" a", "-b", "+B", " c", "-d", " e", "+f");
+    }
+
+    @Test
+    void editsCarryOldLineIndexesForKeptAndRemovedLines() {
+        assertThat(LineDiff.edits("a\nb\nc", "a\nc\nd")).containsExactly(
+                new LineDiff.Edit(LineDiff.Edit.KEEP, "a", 0),
+                new LineDiff.Edit(LineDiff.Edit.REMOVE, "b", 1),
+                new LineDiff.Edit(LineDiff.Edit.KEEP, "c", 2),
+                new LineDiff.Edit(LineDiff.Edit.ADD, "d", -1));
+    }
+}
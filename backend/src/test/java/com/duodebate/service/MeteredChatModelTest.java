@@ -0,0 +1,138 @@
+package com.duodebate.service;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeteredChatModelTest {
+
+    private final ListAppender<ILoggingEvent> logs = new ListAppender<>();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(MeteredChatModel.class);
+
+    @BeforeEach
+    void captureLogs() {
+        logs.start();
+        logger.addAppender(logs);
+    }
+
+    @AfterEach
+    void releaseLogs() {
+        logger.detachAppender(logs);
+    }
+
+    @Test
+    void tokensPerSecondUsesCompletionTokensOverCallTime() {
+        assertThat(MeteredChatModel.tokensPerSecond(20, TimeUnit.SECONDS.toNanos(2))).isEqualTo(10.0);
+        assertThat(MeteredChatModel.tokensPerSecond(150, TimeUnit.MILLISECONDS.toNanos(500))).isEqualTo(300.0);
+    }
+
+    @Test
+    void turnWithUsageLogsThroughput() {
+        new MeteredChatModel(stub(response("hello", 5, 20)), "PROPOSER", null).call(new Prompt("hi"));
+
+        assertThat(lastLog())
+                .startsWith("PROPOSER turn:")
+                .contains("prompt_tokens=5", "completion_tokens=20", "tokens_per_sec=");
+    }
+
+    @Test
+    void turnWithoutUsageLogsUnknownTokens() {
+        new MeteredChatModel(stub(response("hello")), "PROPOSER", null).call(new Prompt("hi"));
+
+        assertThat(lastLog()).contains("tokens=unknown").doesNotContain("tokens_per_sec");
+    }
+
+    @Test
+    void turnWithZeroCompletionTokensLogsUnknownTokens() {
+        new MeteredChatModel(stub(response("", 5, 0)), "CHALLENGER", null).call(new Prompt("hi"));
+
+        assertThat(lastLog()).contains("tokens=unknown").doesNotContain("tokens_per_sec");
+    }
+
+    @Test
+    void streamIsDelegatedAndHoldsTheSlotUntilItCompletes() {
+        Semaphore slots = new Semaphore(1);
+        List<Integer> permitsDuringStream = new CopyOnWriteArrayList<>();
+        ChatModel delegate = stub(response("hel"), response("lo", 5, 20));
+        ChatModel metered = new MeteredChatModel(observing(delegate, slots, permitsDuringStream), "PROPOSER", slots);
+
+        List<ChatResponse> chunks = metered.stream(new Prompt("hi")).collectList().block();
+
+        assertThat(chunks).hasSize(2);
+        assertThat(permitsDuringStream).containsExactly(0, 0);
+        assertThat(slots.availablePermits()).isEqualTo(1);
+        assertThat(lastLog()).contains("completion_tokens=20");
+    }
+
+    @Test
+    void cancelledStreamReleasesTheSlot() {
+        Semaphore slots = new Semaphore(1);
+        ChatModel metered = new MeteredChatModel(stub(response("hel"), response("lo")), "PROPOSER", slots);
+
+        metered.stream(new Prompt("hi")).take(1).blockLast();
+
+        assertThat(slots.availablePermits()).isEqualTo(1);
+    }
+
+    private String lastLog() {
+        assertThat(logs.list).isNotEmpty();
+        return logs.list.get(logs.list.size() - 1).getFormattedMessage();
+    }
+
+    private static ChatResponse response(String text) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))));
+    }
+
+    private static ChatResponse response(String text, int promptTokens, int completionTokens) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))),
+                ChatResponseMetadata.builder().usage(new DefaultUsage(promptTokens, completionTokens)).build());
+    }
+
+    // call() returns the last response; stream() emits them all
+    private static ChatModel stub(ChatResponse... responses) {
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                return responses[responses.length - 1];
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return Flux.just(responses);
+            }
+        };
+    }
+
+    private static ChatModel observing(ChatModel delegate, Semaphore slots, List<Integer> permits) {
+        return new ChatModel() {
+            @Override
+            public ChatResponse call(Prompt prompt) {
+                return delegate.call(prompt);
+            }
+
+            @Override
+            public Flux<ChatResponse> stream(Prompt prompt) {
+                return delegate.stream(prompt).doOnNext(chunk -> permits.add(slots.availablePermits()));
+            }
+        };
+    }
+}
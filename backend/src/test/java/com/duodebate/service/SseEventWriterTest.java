@@ -0,0 +1,261 @@
+package com.duodebate.service;
+
+import com.duodebate.dto.DebateEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static com.duodebate.dto.DebateEvent.EventType.CHALLENGER_RESPONSE;
+import static com.duodebate.dto.DebateEvent.EventType.DEBATE_COMPLETE;
+import static com.duodebate.dto.DebateEvent.EventType.DEBATE_START;
+import static com.duodebate.dto.DebateEvent.EventType.ITERATION_START;
+import static com.duodebate.dto.DebateEvent.EventType.PROPOSER_RESPONSE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Drives SseEventWriter against an emitter that records, blocks or fails on demand.
+ */
+class SseEventWriterTest {
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final StubEmitter emitter = new StubEmitter();
+    private final CountDownLatch closed = new CountDownLatch(1);
+
+    @AfterEach
+    void stopScheduler() {
+        emitter.unblock();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    void structuralEventsAreFlushedInOrderBeforeCompleting() throws Exception {
+        SseEventWriter writer = start(8, 0);
+
+        writer.send(event(DEBATE_START));
+        writer.send(event(PROPOSER_RESPONSE));
+        writer.send(event(CHALLENGER_RESPONSE));
+        writer.send(event(DEBATE_COMPLETE));
+        writer.complete();
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.written).containsExactly(
+                "DEBATE_START", "PROPOSER_RESPONSE", "CHALLENGER_RESPONSE", "DEBATE_COMPLETE", "complete");
+        assertThat(writer.getMetrics().getSent()).isEqualTo(4L);
+    }
+
+    @Test
+    void pendingIterationStartIsCoalescedByTheNextEvent() throws Exception {
+        SseEventWriter writer = start(8, 0);
+        emitter.block();
+
+        writer.send(event(PROPOSER_RESPONSE));
+        emitter.awaitSend();
+        writer.send(event(ITERATION_START));
+        writer.send(event(CHALLENGER_RESPONSE));
+        emitter.unblock();
+        writer.complete();
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.written).containsExactly("PROPOSER_RESPONSE", "CHALLENGER_RESPONSE", "complete");
+        assertThat(writer.getMetrics().getCoalesced()).isEqualTo(1L);
+    }
+
+    @Test
+    void progressEventsAreDroppedAtCapacity() throws Exception {
+        SseEventWriter writer = start(2, 0);
+        emitter.block();
+
+        writer.send(event(PROPOSER_RESPONSE));
+        emitter.awaitSend();
+        writer.send(event(CHALLENGER_RESPONSE));
+        writer.send(event(PROPOSER_RESPONSE));
+        writer.send(event(ITERATION_START));
+
+        assertThat(writer.isOpen()).isTrue();
+        assertThat(writer.getMetrics().getDropped()).isEqualTo(1L);
+
+        emitter.unblock();
+        writer.complete();
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.written).containsExactly(
+                "PROPOSER_RESPONSE", "CHALLENGER_RESPONSE", "PROPOSER_RESPONSE", "complete");
+    }
+
+    @Test
+    void structuralBacklogPastCapacityClosesTheWriter() throws Exception {
+        SseEventWriter writer = start(2, 0);
+        emitter.block();
+
+        writer.send(event(PROPOSER_RESPONSE));
+        emitter.awaitSend();
+        writer.send(event(CHALLENGER_RESPONSE));
+        writer.send(event(PROPOSER_RESPONSE));
+        writer.send(event(CHALLENGER_RESPONSE));
+
+        assertThat(writer.isOpen()).isFalse();
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.getMetrics().getStalled()).isTrue();
+        assertThat(writer.getMetrics().getQueueDepth()).isZero();
+
+        // Once the blocked write returns, the response is released instead of waiting for the timeout
+        emitter.unblock();
+        assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.written).containsExactly("PROPOSER_RESPONSE", "complete");
+    }
+
+    @Test
+    void idleStreamGetsHeartbeats() {
+        SseEventWriter writer = start(8, 1);
+
+        await(() -> writer.getMetrics().getHeartbeats() > 0);
+
+        assertThat(emitter.written).contains("heartbeat");
+        assertThat(writer.getMetrics().getSent()).isZero();
+    }
+
+    @Test
+    void pendingHeartbeatIsReplacedWithoutCountingAsCoalesced() throws Exception {
+        SseEventWriter writer = start(8, 1);
+        emitter.block();
+
+        writer.send(event(PROPOSER_RESPONSE));
+        emitter.awaitSend();
+        // The blocked write counts as idle time, so a heartbeat queues up behind it
+        await(() -> writer.getMetrics().getQueueDepth() == 1);
+        writer.send(event(CHALLENGER_RESPONSE));
+
+        assertThat(writer.getMetrics().getQueueDepth()).isEqualTo(1);
+        assertThat(writer.getMetrics().getCoalesced()).isZero();
+
+        emitter.unblock();
+        writer.complete();
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(emitter.written).startsWith("PROPOSER_RESPONSE", "CHALLENGER_RESPONSE");
+    }
+
+    @Test
+    void failedWriteClosesTheWriter() throws Exception {
+        SseEventWriter writer = start(8, 0);
+        emitter.failure = new IOException("Broken pipe");
+
+        writer.send(event(DEBATE_START));
+
+        assertThat(closed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(writer.isOpen()).isFalse();
+        writer.send(event(PROPOSER_RESPONSE));
+        assertThat(writer.getMetrics().getQueueDepth()).isZero();
+        assertThat(emitter.written).isEmpty();
+    }
+
+    @Test
+    void managerForgetsClosedConnections() throws Exception {
+        SseConnectionManager manager = new SseConnectionManager(8, 0);
+        try {
+            SseEventWriter writer = manager.open(emitter);
+            writer.send(event(DEBATE_START));
+            assertThat(manager.getMetrics()).hasSize(1);
+
+            writer.complete();
+
+            assertThat(emitter.completed.await(5, TimeUnit.SECONDS)).isTrue();
+            await(() -> manager.getMetrics().isEmpty());
+        } finally {
+            manager.shutdown();
+        }
+    }
+
+    private SseEventWriter start(int capacity, long heartbeatSeconds) {
+        SseEventWriter writer = new SseEventWriter("test", emitter, capacity, heartbeatSeconds,
+                w -> closed.countDown());
+        writer.start(scheduler);
+        return writer;
+    }
+
+    private static DebateEvent event(DebateEvent.EventType type) {
+        return DebateEvent.builder()
+                .type(type)
+                .debateId("debate-1")
+                .build();
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition not met in time").isLessThan(deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Records event types, heartbeats and completion; can hold a write open or fail it.
+     */
+    private static class StubEmitter extends SseEmitter {
+
+        final List<String> written = new CopyOnWriteArrayList<>();
+        final CountDownLatch completed = new CountDownLatch(1);
+        final Semaphore sends = new Semaphore(0);
+        volatile IOException failure;
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void block() {
+            gate = new CountDownLatch(1);
+        }
+
+        void unblock() {
+            gate.countDown();
+        }
+
+        void awaitSend() throws InterruptedException {
+            assertThat(sends.tryAcquire(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends.release();
+            if (failure != null) {
+                throw failure;
+            }
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException(e);
+            }
+            for (ResponseBodyEmitter.DataWithMediaType data : builder.build()) {
+                if (data.getData() instanceof DebateEvent event) {
+                    written.add(event.getType().name());
+                } else if (data.getData().toString().contains("heartbeat")) {
+                    written.add("heartbeat");
+                }
+            }
+        }
+
+        @Override
+        public void complete() {
+            written.add("complete");
+            completed.countDown();
+        }
+
+        @Override
+        public void completeWithError(Throwable ex) {
+            written.add("error");
+            completed.countDown();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.duodebate.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TranscriptSinkTest {
+
+    private static final String DEBATE = "debate-1";
+
+    @TempDir
+    Path dir;
+
+    private final GatedObjectMapper objectMapper = new GatedObjectMapper();
+    private TranscriptSink sink;
+
+    @AfterEach
+    void stopSink() throws InterruptedException {
+        objectMapper.open();
+        if (sink != null) {
+            sink.shutdown();
+        }
+    }
+
+    @Test
+    void fullQueueDropsAndCountsInsteadOfBlocking() throws Exception {
+        sink = sink(2, 1000);
+        objectMapper.hold();
+
+        sink.record(DEBATE, "PROMPT", 0, "first");
+        objectMapper.awaitWriter();
+        sink.record(DEBATE, "DRAFT", 1, "second");
+        sink.record(DEBATE, "CRITIQUE", 1, "third");
+        sink.record(DEBATE, "DRAFT", 2, "fourth");
+
+        assertThat(sink.getDroppedCount()).isEqualTo(1);
+        assertThat(sink.getMetrics()).containsEntry("dropped", 1L).containsEntry("queueDepth", 2L);
+
+        objectMapper.open();
+        sink.shutdown();
+        assertThat(bodies(readLines())).containsExactly("first", "second", "third");
+        assertThat(sink.getWrittenCount()).isEqualTo(3);
+    }
+
+    @Test
+    void closeWaitsForTheDebatesQueuedEntries() throws Exception {
+        sink = sink(16, 1000);
+        objectMapper.hold();
+
+        sink.record(DEBATE, "PROMPT", 0, "first");
+        objectMapper.awaitWriter();
+        sink.record(DEBATE, "FINAL_DRAFT", 1, "second");
+        sink.close(DEBATE);
+        objectMapper.open();
+
+        // A closed gzip stream is complete on disk; both entries must be in it
+        assertThat(bodies(awaitCompleteFile())).containsExactly("first", "second");
+    }
+
+    @Test
+    void reopenedTranscriptAppendsANewGzipMember() throws Exception {
+        sink = sink(16, 1000);
+
+        sink.record(DEBATE, "PROMPT", 0, "first");
+        sink.close(DEBATE);
+        awaitCompleteFile();
+        long firstMemberBytes = Files.size(file());
+
+        sink.record(DEBATE, "FINAL_DRAFT", 1, "second");
+        sink.shutdown();
+
+        assertThat(Files.size(file())).isGreaterThan(firstMemberBytes);
+        assertThat(bodies(readLines())).containsExactly("first", "second");
+    }
+
+    @Test
+    void bodiesOverTheLimitAreTruncated() throws Exception {
+        sink = sink(16, 5);
+
+        sink.record(DEBATE, "DRAFT", 1, "abcdefghij");
+        sink.shutdown();
+
+        JsonNode line = readLines().get(0);
+        assertThat(line.get("body").asText()).isEqualTo("abcde");
+        assertThat(line.get("truncated").asBoolean()).isTrue();
+        assertThat(line.get("chars").asInt()).isEqualTo(10);
+        assertThat(line.get("kind").asText()).isEqualTo("DRAFT");
+    }
+
+    private TranscriptSink sink(int queueCapacity, int maxBodyChars) {
+        return new TranscriptSink(true, dir.toString(), queueCapacity, maxBodyChars, objectMapper);
+    }
+
+    private Path file() {
+        return dir.resolve(DEBATE + ".jsonl.gz");
+    }
+
+    private List<JsonNode> awaitCompleteFile() throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                if (Files.exists(file())) {
+                    return readLines();
+                }
+            } catch (EOFException e) {
+                // Still open: the gzip trailer hasn't been written yet
+            }
+            assertThat(System.nanoTime()).as("transcript not closed in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    // GZIPInputStream reads concatenated members as one stream
+    private List<JsonNode> readLines() throws IOException {
+        List<JsonNode> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file())), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(new ObjectMapper().readTree(line));
+            }
+        }
+        return lines;
+    }
+
+    private static List<String> bodies(List<JsonNode> lines) {
+        return lines.stream().map(line -> line.get("body").asText()).toList();
+    }
+
+    /**
+     * Lets a test hold the writer thread inside its first serialization, so the
+     * queue can be filled deterministically.
+     */
+    private static class GatedObjectMapper extends ObjectMapper {
+
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private volatile CountDownLatch gate = new CountDownLatch(0);
+
+        void hold() {
+            gate = new CountDownLatch(1);
+        }
+
+        void open() {
+            gate.countDown();
+        }
+
+        void awaitWriter() throws InterruptedException {
+            assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Override
+        public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+            writing.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.writeValueAsBytes(value);
+        }
+    }
+}
@@ -96,3 +96,29 @@ export const getConfig = async () => {
     return null;
   }
 };
+
+export const getDraft = async (debateId, iteration) => {
+  try {
+    const response = await fetch(`${API_BASE_URL}/api/debates/${debateId}/drafts/${iteration}`);
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return await response.json();
+  } catch (error) {
+    console.error('Failed to fetch draft:', error);
+    return null;
+  }
+};
+
+export const getDraftDiff = async (debateId, from, to) => {
+  try {
+    const response = await fetch(`${API_BASE_URL}/api/debates/${debateId}/drafts/diff?from=${from}&to=${to}`);
+    if (!response.ok) {
+      throw new Error(`HTTP error! status: ${response.status}`);
+    }
+    return await response.json();
+  } catch (error) {
+    console.error('Failed to fetch draft diff:', error);
+    return null;
+  }
+};